@@ -230,12 +230,16 @@ public class SeamCarver {
     }
     
     for (int row = 0; row < height - 1; row++) {
-      for (int col = 0; col < width - 1; col++) {
+      for (int col = 0; col < width; col++) { // relax from every column, including the last one
         int pos = col - 1;
         if (pos < 0) {
           pos = 0;
         }
-        for (; pos < col + 2; pos++) {
+        int end = col + 2;
+        if (end > width) {
+          end = width;
+        }
+        for (; pos < end; pos++) {
           if (distTo[pos][row + 1] > distTo[col][row] + energy(pos, row + 1)) {
             distTo[pos][row + 1] = distTo[col][row] + energy(pos, row + 1);
             edgeTo[pos][row + 1] = col; // record the column of parent pixel 
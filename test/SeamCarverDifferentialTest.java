@@ -0,0 +1,349 @@
+import static org.junit.Assert.*;
+import edu.princeton.cs.algs4.Picture;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ *  Randomized differential tests for {@code SeamCarver}.
+ *  <p>
+ *  Every test generates synthetic pictures from a fixed seed, carves them with
+ *  {@code SeamCarver}, and checks each seam against a straightforward reference
+ *  dynamic program that works directly on the RGB values:
+ *  1. the seam must be valid (right length, entries in range, adjacent entries
+ *     differ by at most 1);
+ *  2. the total energy of the seam must equal the minimum computed by the reference.
+ *  Ties are allowed, so only the total energy is compared, not the seam itself.
+ *  <p>
+ *  The 4K tests additionally bound the running time of a single seam search,
+ *  so that optimizations of the carving paths are checked for both speed and correctness.
+ */
+public class SeamCarverDifferentialTest {
+  private static final long SEED = 20180529L;
+  private static final int TRIALS = 25;          // random pictures per test
+  private static final int MAX_SIDE = 400;       // largest side of a random picture
+  private static final double EPSILON = 1e-9;    // relative tolerance of energy sums
+
+  private static final int UHD_WIDTH = 3840;     // 4K UHD
+  private static final int UHD_HEIGHT = 2160;
+  private static final long UHD_TIME_LIMIT_MILLIS = 10000; // per seam search
+
+  /* ------------------------------------------------------------------------
+   *  picture generators, rgb[col][row] like SeamCarver
+   * ------------------------------------------------------------------------ */
+
+  // every pixel is an independent random color
+  private static int[][] noiseRGB(Random random, int width, int height) {
+    int[][] rgb = new int[width][height];
+    for (int col = 0; col < width; col++) {
+      for (int row = 0; row < height; row++) {
+        rgb[col][row] = random.nextInt(1 << 24);
+      }
+    }
+    return rgb;
+  }
+
+  // smooth gradients with a few random blocks, close to a real photo
+  private static int[][] gradientRGB(Random random, int width, int height) {
+    int[][] rgb = new int[width][height];
+    int phase = random.nextInt(256);
+    for (int col = 0; col < width; col++) {
+      for (int row = 0; row < height; row++) {
+        int red = (col * 255 / Math.max(1, width - 1) + phase) & 0xFF;
+        int green = (row * 255 / Math.max(1, height - 1)) & 0xFF;
+        int blue = ((col + row) * 3 + phase) & 0xFF;
+        rgb[col][row] = (red << 16) | (green << 8) | blue;
+      }
+    }
+    int blocks = random.nextInt(8);
+    for (int i = 0; i < blocks; i++) {
+      int x0 = random.nextInt(width);
+      int y0 = random.nextInt(height);
+      int x1 = Math.min(width, x0 + 1 + random.nextInt(Math.max(1, width / 4)));
+      int y1 = Math.min(height, y0 + 1 + random.nextInt(Math.max(1, height / 4)));
+      int color = random.nextInt(1 << 24);
+      for (int col = x0; col < x1; col++) {
+        for (int row = y0; row < y1; row++) {
+          rgb[col][row] = color;
+        }
+      }
+    }
+    return rgb;
+  }
+
+  // only a few colors, so that many seams tie on the minimum energy
+  private static int[][] paletteRGB(Random random, int width, int height) {
+    int[] palette = new int[1 + random.nextInt(3)];
+    for (int i = 0; i < palette.length; i++) {
+      palette[i] = random.nextInt(1 << 24);
+    }
+    int[][] rgb = new int[width][height];
+    for (int col = 0; col < width; col++) {
+      for (int row = 0; row < height; row++) {
+        rgb[col][row] = palette[random.nextInt(palette.length)];
+      }
+    }
+    return rgb;
+  }
+
+  private static int[][] randomRGB(Random random, int width, int height) {
+    switch (random.nextInt(3)) {
+      case 0:  return noiseRGB(random, width, height);
+      case 1:  return gradientRGB(random, width, height);
+      default: return paletteRGB(random, width, height);
+    }
+  }
+
+  // random side length, biased towards the degenerate sizes 1, 2 and 3
+  private static int randomSide(Random random) {
+    if (random.nextInt(5) == 0) {
+      return 1 + random.nextInt(3);
+    }
+    return 1 + random.nextInt(MAX_SIDE);
+  }
+
+  private static Picture toPicture(int[][] rgb) {
+    int width = rgb.length;
+    int height = rgb[0].length;
+    Picture picture = new Picture(width, height);
+    for (int col = 0; col < width; col++) {
+      for (int row = 0; row < height; row++) {
+        picture.set(col, row, new Color(rgb[col][row]));
+      }
+    }
+    return picture;
+  }
+
+  /* ------------------------------------------------------------------------
+   *  reference implementation
+   * ------------------------------------------------------------------------ */
+
+  private static int square(int a, int b, int shift) {
+    int diff = ((a >> shift) & 0xFF) - ((b >> shift) & 0xFF);
+    return diff * diff;
+  }
+
+  private static int gradient(int a, int b) {
+    return square(a, b, 16) + square(a, b, 8) + square(a, b, 0);
+  }
+
+  // dual-gradient energy, straight from the specification
+  private static double energy(int[][] rgb, int x, int y) {
+    int width = rgb.length;
+    int height = rgb[0].length;
+    if (x == 0 || x == width - 1 || y == 0 || y == height - 1) {
+      return 1000.0;
+    }
+    return Math.sqrt(gradient(rgb[x - 1][y], rgb[x + 1][y]) + gradient(rgb[x][y - 1], rgb[x][y + 1]));
+  }
+
+  // minimum total energy of a vertical seam, relaxing every pixel to its three children
+  private static double minVerticalSeamEnergy(int[][] rgb) {
+    int width = rgb.length;
+    int height = rgb[0].length;
+    double[] distTo = new double[width];
+    for (int col = 0; col < width; col++) {
+      distTo[col] = energy(rgb, col, 0);
+    }
+    for (int row = 1; row < height; row++) {
+      double[] next = new double[width];
+      Arrays.fill(next, Double.POSITIVE_INFINITY);
+      for (int col = 0; col < width; col++) {
+        for (int pos = Math.max(0, col - 1); pos <= Math.min(width - 1, col + 1); pos++) {
+          next[pos] = Math.min(next[pos], distTo[col] + energy(rgb, pos, row));
+        }
+      }
+      distTo = next;
+    }
+    double min = Double.POSITIVE_INFINITY;
+    for (int col = 0; col < width; col++) {
+      min = Math.min(min, distTo[col]);
+    }
+    return min;
+  }
+
+  private static int[][] transpose(int[][] rgb) {
+    int width = rgb.length;
+    int height = rgb[0].length;
+    int[][] transposed = new int[height][width];
+    for (int col = 0; col < width; col++) {
+      for (int row = 0; row < height; row++) {
+        transposed[row][col] = rgb[col][row];
+      }
+    }
+    return transposed;
+  }
+
+  private static int[][] removeVertical(int[][] rgb, int[] seam) {
+    int width = rgb.length;
+    int height = rgb[0].length;
+    int[][] carved = new int[width - 1][height];
+    for (int row = 0; row < height; row++) {
+      for (int col = 0, dest = 0; col < width; col++) {
+        if (col != seam[row]) {
+          carved[dest++][row] = rgb[col][row];
+        }
+      }
+    }
+    return carved;
+  }
+
+  private static int[][] removeHorizontal(int[][] rgb, int[] seam) {
+    return transpose(removeVertical(transpose(rgb), seam));
+  }
+
+  /* ------------------------------------------------------------------------
+   *  checks
+   * ------------------------------------------------------------------------ */
+
+  // seam has one entry per row of rgb, each a column of rgb
+  private static void assertValidVerticalSeam(int[][] rgb, int[] seam) {
+    int width = rgb.length;
+    int height = rgb[0].length;
+    assertNotNull("seam must not be null", seam);
+    assertEquals("length of seam", height, seam.length);
+    for (int i = 0; i < seam.length; i++) {
+      assertTrue("entry " + i + " out of range: " + seam[i], seam[i] >= 0 && seam[i] < width);
+      if (i > 0) {
+        assertTrue("entries " + (i - 1) + " and " + i + " differ by more than 1",
+                   Math.abs(seam[i] - seam[i - 1]) <= 1);
+      }
+    }
+  }
+
+  // seam is a valid vertical seam of rgb with the minimum total energy
+  private static void assertMinimumVerticalSeam(int[][] rgb, int[] seam) {
+    assertValidVerticalSeam(rgb, seam);
+    double expected = minVerticalSeamEnergy(rgb);
+    double actual = 0.0;
+    for (int row = 0; row < seam.length; row++) {
+      actual += energy(rgb, seam[row], row);
+    }
+    String size = rgb.length + "x" + rgb[0].length;
+    assertEquals("total energy of seam in " + size + " picture", expected, actual, EPSILON * expected);
+  }
+
+  private static void assertMinimumHorizontalSeam(int[][] rgb, int[] seam) {
+    assertMinimumVerticalSeam(transpose(rgb), seam);
+  }
+
+  private static void assertSamePicture(int[][] rgb, Picture picture) {
+    assertEquals(rgb.length, picture.width());
+    assertEquals(rgb[0].length, picture.height());
+    for (int col = 0; col < rgb.length; col++) {
+      for (int row = 0; row < rgb[0].length; row++) {
+        assertEquals("pixel (" + col + ", " + row + ")",
+                     rgb[col][row], picture.get(col, row).getRGB() & 0xFFFFFF);
+      }
+    }
+  }
+
+  /* ------------------------------------------------------------------------
+   *  tests
+   * ------------------------------------------------------------------------ */
+
+  @Test
+  public void testReferenceOn6x5() {
+    // energies of 6x5.png from the specification, minimum vertical seam is 2414.97
+    SeamCarver sc = new SeamCarver(new Picture("seam-testing/6x5.png"));
+    int[][] rgb = new int[sc.width()][sc.height()];
+    Picture picture = sc.picture();
+    for (int col = 0; col < sc.width(); col++) {
+      for (int row = 0; row < sc.height(); row++) {
+        rgb[col][row] = picture.get(col, row).getRGB() & 0xFFFFFF;
+        assertEquals(sc.energy(col, row), energy(rgb, col, row), 0.0);
+      }
+    }
+    assertEquals(2414.97, minVerticalSeamEnergy(rgb), 0.01);
+  }
+
+  @Test
+  public void testRandomVerticalSeams() {
+    Random random = new Random(SEED);
+    for (int t = 0; t < TRIALS; t++) {
+      int[][] rgb = randomRGB(random, randomSide(random), randomSide(random));
+      SeamCarver sc = new SeamCarver(toPicture(rgb));
+      assertMinimumVerticalSeam(rgb, sc.findVerticalSeam());
+    }
+  }
+
+  @Test
+  public void testRandomHorizontalSeams() {
+    Random random = new Random(SEED + 1);
+    for (int t = 0; t < TRIALS; t++) {
+      int[][] rgb = randomRGB(random, randomSide(random), randomSide(random));
+      SeamCarver sc = new SeamCarver(toPicture(rgb));
+      assertMinimumHorizontalSeam(rgb, sc.findHorizontalSeam());
+    }
+  }
+
+  @Test
+  public void testDegenerateSizes() {
+    Random random = new Random(SEED + 2);
+    int[][] sizes = {{1, 1}, {1, 8}, {8, 1}, {2, 2}, {2, 9}, {9, 2}, {3, 3}, {3, 50}, {50, 3}};
+    for (int[] size : sizes) {
+      int[][] rgb = noiseRGB(random, size[0], size[1]);
+      SeamCarver sc = new SeamCarver(toPicture(rgb));
+      assertMinimumVerticalSeam(rgb, sc.findVerticalSeam());
+      assertMinimumHorizontalSeam(rgb, sc.findHorizontalSeam());
+    }
+  }
+
+  @Test
+  /*
+   * carve random pictures in a random mix of both directions,
+   * every seam must be minimal for the picture left by the previous removals
+   */
+  public void testRandomCarving() {
+    Random random = new Random(SEED + 3);
+    for (int t = 0; t < 5; t++) {
+      int[][] rgb = randomRGB(random, 40 + random.nextInt(160), 40 + random.nextInt(160));
+      SeamCarver sc = new SeamCarver(toPicture(rgb));
+      for (int i = 0; i < 30; i++) {
+        if (random.nextBoolean()) {
+          int[] seam = sc.findVerticalSeam();
+          assertMinimumVerticalSeam(rgb, seam);
+          sc.removeVerticalSeam(seam);
+          rgb = removeVertical(rgb, seam);
+        } else {
+          int[] seam = sc.findHorizontalSeam();
+          assertMinimumHorizontalSeam(rgb, seam);
+          sc.removeHorizontalSeam(seam);
+          rgb = removeHorizontal(rgb, seam);
+        }
+        assertEquals(rgb.length, sc.width());
+        assertEquals(rgb[0].length, sc.height());
+      }
+      assertSamePicture(rgb, sc.picture());
+    }
+  }
+
+  @Test
+  public void test4KVerticalSeam() {
+    int[][] rgb = gradientRGB(new Random(SEED + 4), UHD_WIDTH, UHD_HEIGHT);
+    SeamCarver sc = new SeamCarver(toPicture(rgb));
+
+    long start = System.currentTimeMillis();
+    int[] seam = sc.findVerticalSeam();
+    long elapsed = System.currentTimeMillis() - start;
+
+    assertTrue("findVerticalSeam() on 4K picture took " + elapsed + " ms", elapsed <= UHD_TIME_LIMIT_MILLIS);
+    assertMinimumVerticalSeam(rgb, seam);
+  }
+
+  @Test
+  public void test4KHorizontalSeam() {
+    int[][] rgb = gradientRGB(new Random(SEED + 5), UHD_WIDTH, UHD_HEIGHT);
+    SeamCarver sc = new SeamCarver(toPicture(rgb));
+
+    long start = System.currentTimeMillis();
+    int[] seam = sc.findHorizontalSeam();
+    long elapsed = System.currentTimeMillis() - start;
+
+    assertTrue("findHorizontalSeam() on 4K picture took " + elapsed + " ms", elapsed <= UHD_TIME_LIMIT_MILLIS);
+    assertMinimumHorizontalSeam(rgb, seam);
+  }
+}